@@ -1,19 +1,71 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Random;
+import java.util.function.Consumer;
 
 public class BrickBreakerGame extends JPanel implements ActionListener, KeyListener {
     private static final int WIDTH = 800;
     private static final int HEIGHT = 600;
     private static final int DELAY = 10;
     
+    // Frame-budget governor tuning: paint work may use half of each tick
+    private static final long FRAME_BUDGET_NANOS = DELAY * 1_000_000L / 2;
+    private static final double GOVERNOR_DEFAULT_STEP_COST = 2.0;
+    private static final double GOVERNOR_UPGRADE_MARGIN = 0.8;
+    private static final double GOVERNOR_SMOOTHING = 0.1;
+    private static final int GOVERNOR_DOWNGRADE_FRAMES = 30;
+    private static final int GOVERNOR_UPGRADE_FRAMES = 300;
+    
+    // Entity archetype dimensions and speeds
+    private static final int BALL_SIZE = 15;
+    private static final double BALL_SPEED = 5.0;
+    private static final int POWER_UP_WIDTH = 30;
+    private static final int POWER_UP_HEIGHT = 15;
+    private static final int POWER_UP_SPEED = 3;
+    
+    // Paddle and brick dimensions, shared with the sprite atlas
+    private static final int PADDLE_WIDTH = 100;
+    private static final int PADDLE_EXPANDED_WIDTH = (int)(PADDLE_WIDTH * 1.5);
+    private static final int PADDLE_SHRUNK_WIDTH = (int)(PADDLE_WIDTH * 0.75);
+    private static final int PADDLE_HEIGHT = 20;
+    private static final Color PADDLE_COLOR = new Color(50, 150, 250);
+    private static final int BRICK_WIDTH = 70;
+    private static final int BRICK_HEIGHT = 30;
+    private static final int BRICK_MAX_STRENGTH = 3;
+    private static final Color[] BRICK_COLORS = {
+        Color.RED, Color.ORANGE, Color.YELLOW, Color.GREEN, Color.BLUE, Color.MAGENTA
+    };
+    
+    // Fonts, created once rather than on every frame
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 36);
+    private static final Font SCORE_FONT = new Font("Arial", Font.PLAIN, 24);
+    private static final Font MESSAGE_FONT = new Font("Arial", Font.PLAIN, 18);
+    private static final Font HUD_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font METRIC_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final int ATLAS_WIDTH = 512;
+    
+    // Input and latency instrumentation
+    private static final int PADDLE_SPEED = 8;
+    private static final int PROBE_INTERVAL = 300;
+    private static final long PROBE_TIMEOUT_NANOS = 1_000_000_000L;
+    private static final int PROBE_REPORT_EVERY = 100;
+    private static final int HISTOGRAM_BUCKETS = 50;
+    
     private Timer timer;
     private Paddle paddle;
-    private Ball ball;
     private ArrayList<Brick> bricks;
-    private ArrayList<PowerUp> powerUps;
+    
+    // Dynamic objects live in one entity table per archetype
+    private EntityTable balls;
+    private EntityTable powerUps;
+    
+    // Archetypes other than balls, stepped after collisions each tick
+    private ArrayList<EntityTable> entityTables;
     
     private boolean inGame = false;
     private boolean gameOver = false;
@@ -24,6 +76,21 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
     // Random generator for power-ups
     private Random random = new Random();
     
+    // Key-state table, sampled at the start of each tick
+    private InputState input = new InputState();
+    
+    // Input-to-frame latency harness, only created in instrumentation mode
+    private LatencyProbe latencyProbe;
+    
+    // Adjusts render quality to keep paint time within the frame budget
+    private FrameGovernor governor = new FrameGovernor();
+    
+    // Pre-rasterized sprites, one atlas per quality tier
+    private SpriteAtlas[] atlases = new SpriteAtlas[RenderQuality.values().length];
+    private HudCounter scoreCounter = new HudCounter("Score: ");
+    private HudCounter livesCounter = new HudCounter("Lives: ");
+    private HudCounter levelCounter = new HudCounter("Level: ");
+    
     public BrickBreakerGame() {
         initGame();
     }
@@ -34,11 +101,23 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
         setFocusable(true);
         addKeyListener(this);
         
+        // Releases that happen while unfocused never arrive, so forget held keys
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                input.clear();
+            }
+        });
+        
+        balls = new EntityTable(EdgeRule.BOUNCE, EdgeRule.BOUNCE, EdgeRule.CULL, 4);
+        powerUps = new EntityTable(EdgeRule.IGNORE, EdgeRule.IGNORE, EdgeRule.CULL, 16);
+        entityTables = new ArrayList<>();
+        entityTables.add(powerUps);
+        
         paddle = new Paddle(WIDTH / 2, HEIGHT - 50);
         resetBall();
         
         bricks = new ArrayList<>();
-        powerUps = new ArrayList<>();
         
         loadLevel(currentLevel);
         
@@ -46,14 +125,26 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
     }
     
     private void resetBall() {
-        ball = new Ball(WIDTH / 2, HEIGHT - 70);
+        balls.clear();
+        spawnBall(WIDTH / 2, HEIGHT - 70);
+    }
+    
+    private void spawnBall(int x, int y) {
+        // Launch with an upward trajectory at an angle
+        double angle = Math.toRadians(-60 + random.nextInt(120)); // -60 to 60 degrees
+        balls.add(x, y, BALL_SPEED * Math.sin(angle), -BALL_SPEED * Math.cos(angle),
+            BALL_SIZE, BALL_SIZE, 0);
+    }
+    
+    private void spawnPowerUp(int x, int y, PowerUpType type) {
+        powerUps.add(x, y, 0, POWER_UP_SPEED, POWER_UP_WIDTH, POWER_UP_HEIGHT, type.ordinal());
     }
     
     private void loadLevel(int level) {
         bricks.clear();
         
-        int brickWidth = 70;
-        int brickHeight = 30;
+        int brickWidth = BRICK_WIDTH;
+        int brickHeight = BRICK_HEIGHT;
         int gap = 5;
         
         // Different layouts based on level
@@ -112,11 +203,20 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
     
     @Override
     public void paintComponent(Graphics g) {
+        // Atlas builds are one-off work and must not count as paint time
+        if (atlases[0] == null) {
+            buildAtlases();
+        }
+        
+        long frameStart = System.nanoTime();
         super.paintComponent(g);
         
         Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        RenderQuality quality = governor.getQuality();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+            quality == RenderQuality.HIGH ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
 
+        boolean playing = inGame && !gameOver;
         if (!inGame) {
             drawIntro(g2d);
         } else if (gameOver) {
@@ -126,16 +226,25 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
         }
         
         Toolkit.getDefaultToolkit().sync();
+        
+        // Menus look the same at every tier, so only gameplay frames count
+        if (playing) {
+            governor.recordFrame(System.nanoTime() - frameStart);
+        }
+        
+        if (latencyProbe != null) {
+            latencyProbe.framePainted();
+        }
     }
     
     private void drawIntro(Graphics2D g2d) {
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 36));
+        g2d.setFont(TITLE_FONT);
         String message = "BRICK BREAKER";
         FontMetrics fm = g2d.getFontMetrics();
         g2d.drawString(message, (WIDTH - fm.stringWidth(message)) / 2, HEIGHT / 2 - 50);
         
-        g2d.setFont(new Font("Arial", Font.PLAIN, 18));
+        g2d.setFont(MESSAGE_FONT);
         message = "Press SPACE to start";
         fm = g2d.getFontMetrics();
         g2d.drawString(message, (WIDTH - fm.stringWidth(message)) / 2, HEIGHT / 2 + 20);
@@ -147,17 +256,17 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
     
     private void drawGameOver(Graphics2D g2d) {
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 36));
+        g2d.setFont(TITLE_FONT);
         String message = gameWon() ? "LEVEL COMPLETE!" : "GAME OVER";
         FontMetrics fm = g2d.getFontMetrics();
         g2d.drawString(message, (WIDTH - fm.stringWidth(message)) / 2, HEIGHT / 2 - 50);
         
-        g2d.setFont(new Font("Arial", Font.PLAIN, 24));
+        g2d.setFont(SCORE_FONT);
         message = "Score: " + score;
         fm = g2d.getFontMetrics();
         g2d.drawString(message, (WIDTH - fm.stringWidth(message)) / 2, HEIGHT / 2);
         
-        g2d.setFont(new Font("Arial", Font.PLAIN, 18));
+        g2d.setFont(MESSAGE_FONT);
         if (gameWon() && currentLevel < 3) {
             message = "Press SPACE to continue to level " + (currentLevel + 1);
         } else {
@@ -168,30 +277,69 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
     }
     
     private void drawGame(Graphics2D g2d) {
+        SpriteAtlas atlas = atlases[governor.getQuality().ordinal()];
+        
         // Draw paddle
-        paddle.draw(g2d);
+        paddle.draw(g2d, atlas);
         
-        // Draw ball
-        ball.draw(g2d);
+        // Draw balls
+        drawBalls(g2d, atlas);
         
         // Draw bricks
         for (Brick brick : bricks) {
             if (brick.isVisible()) {
-                brick.draw(g2d);
+                brick.draw(g2d, atlas);
             }
         }
         
         // Draw power-ups
-        for (PowerUp powerUp : powerUps) {
-            powerUp.draw(g2d);
-        }
+        drawPowerUps(g2d, atlas);
         
         // Draw score and lives
-        g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
-        g2d.drawString("Score: " + score, 20, 30);
-        g2d.drawString("Lives: " + lives, WIDTH - 100, 30);
-        g2d.drawString("Level: " + currentLevel, WIDTH / 2 - 30, 30);
+        scoreCounter.draw(g2d, atlas, score, 20, 30);
+        livesCounter.draw(g2d, atlas, lives, WIDTH - 100, 30);
+        levelCounter.draw(g2d, atlas, currentLevel, WIDTH / 2 - 30, 30);
+        
+        // Draw current quality tier
+        atlas.drawQualityLabel(g2d, 20, HEIGHT - 10);
+    }
+    
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        
+        // Rebuild for the screen we are now attached to
+        buildAtlases();
+    }
+    
+    private void buildAtlases() {
+        for (RenderQuality quality : RenderQuality.values()) {
+            atlases[quality.ordinal()] = new SpriteAtlas(quality);
+        }
+    }
+    
+    private BufferedImage createSpriteImage(int width, int height, int transparency) {
+        // Match the screen format so blits need no per-pixel conversion
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc == null) {
+            return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        }
+        return gc.createCompatibleImage(width, height, transparency);
+    }
+    
+    private void drawBalls(Graphics2D g2d, SpriteAtlas atlas) {
+        for (int i = 0; i < balls.size(); i++) {
+            atlas.drawBall(g2d, (int) balls.getX(i), (int) balls.getY(i));
+        }
+    }
+    
+    private void drawPowerUps(Graphics2D g2d, SpriteAtlas atlas) {
+        PowerUpType[] types = PowerUpType.values();
+        
+        for (int i = 0; i < powerUps.size(); i++) {
+            atlas.drawPowerUp(g2d, types[powerUps.getType(i)], (int) powerUps.getX(i), (int) powerUps.getY(i));
+        }
     }
     
     @Override
@@ -204,17 +352,28 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
     }
     
     private void updateGame() {
+        // Sample input before anything moves
+        samplePaddleInput();
+        
         // Move paddle
         paddle.move();
         
-        // Move ball
-        ball.move();
+        // Move balls; collisions resolve against their new positions
+        balls.move();
+        balls.confine();
         
         // Check collisions
         checkCollisions();
         
-        // Move power-ups
-        updatePowerUps();
+        // Movement and bounds systems for the other archetypes run after
+        // collisions, so anything spawned this tick moves straight away
+        for (EntityTable table : entityTables) {
+            table.move();
+            table.confine();
+        }
+        
+        // Collect power-ups
+        collectPowerUps();
         
         // Check if level is completed
         if (bricks.isEmpty()) {
@@ -222,25 +381,35 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
         }
     }
     
-    private void updatePowerUps() {
-        ArrayList<PowerUp> toRemove = new ArrayList<>();
+    private void samplePaddleInput() {
+        boolean left = input.isDown(KeyEvent.VK_LEFT);
+        boolean right = input.isDown(KeyEvent.VK_RIGHT);
+        
+        // With both arrows held, the one pressed last wins
+        if (left && right) {
+            left = input.getPressedAt(KeyEvent.VK_LEFT) > input.getPressedAt(KeyEvent.VK_RIGHT);
+            right = !left;
+        }
         
-        for (PowerUp powerUp : powerUps) {
-            powerUp.move();
-            
-            // Check if power-up is caught
-            if (powerUp.getBounds().intersects(paddle.getBounds())) {
-                applyPowerUp(powerUp.getType());
-                toRemove.add(powerUp);
-            }
-            
-            // Remove if off-screen
-            if (powerUp.getY() > HEIGHT) {
-                toRemove.add(powerUp);
+        if (left) {
+            paddle.setDx(-PADDLE_SPEED);
+        } else if (right) {
+            paddle.setDx(PADDLE_SPEED);
+        } else {
+            paddle.setDx(0);
+        }
+    }
+    
+    private void collectPowerUps() {
+        PowerUpType[] types = PowerUpType.values();
+        
+        // Walk backwards so swap-removal does not skip entities
+        for (int i = powerUps.size() - 1; i >= 0; i--) {
+            if (powerUps.intersects(i, paddle.getX(), paddle.getY(), paddle.getWidth(), paddle.getHeight())) {
+                applyPowerUp(types[powerUps.getType(i)]);
+                powerUps.remove(i);
             }
         }
-        
-        powerUps.removeAll(toRemove);
     }
     
     private void applyPowerUp(PowerUpType type) {
@@ -255,74 +424,80 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
                 lives++;
                 break;
             case FAST_BALL:
-                ball.speedUp();
+                balls.scaleVelocity(1.3); // 30% faster
                 break;
             case SLOW_BALL:
-                ball.slowDown();
+                balls.scaleVelocity(0.7); // 30% slower
                 break;
         }
     }
     
     private void checkCollisions() {
-        // Check ball-paddle collision
-        if (ball.getBounds().intersects(paddle.getBounds())) {
-            // Calculate the relative position of the ball on the paddle
-            double relativeIntersectX = (ball.getX() + ball.getSize() / 2) - (paddle.getX() + paddle.getWidth() / 2);
-            double normalizedRelativeIntersection = relativeIntersectX / (paddle.getWidth() / 2);
-            
-            // Calculate the bounce angle (-60 to 60 degrees)
-            double bounceAngle = normalizedRelativeIntersection * Math.PI / 3;
-            
-            // Set the new velocity
-            double speed = Math.sqrt(ball.getDx() * ball.getDx() + ball.getDy() * ball.getDy());
-            ball.setDx(speed * Math.sin(bounceAngle));
-            ball.setDy(-speed * Math.cos(bounceAngle));
-        }
-        
-        // Check ball-brick collisions
         ArrayList<Brick> bricksToRemove = new ArrayList<>();
         
-        for (Brick brick : bricks) {
-            if (brick.isVisible() && ball.getBounds().intersects(brick.getBounds())) {
-                // Determine collision side and bounce accordingly
-                Rectangle intersection = ball.getBounds().intersection(brick.getBounds());
-                
-                if (intersection.width <= intersection.height) {
-                    // Horizontal collision (left or right)
-                    ball.setDx(-ball.getDx());
-                } else {
-                    // Vertical collision (top or bottom)
-                    ball.setDy(-ball.getDy());
-                }
+        for (int i = 0; i < balls.size(); i++) {
+            // Check ball-paddle collision
+            if (balls.intersects(i, paddle.getX(), paddle.getY(), paddle.getWidth(), paddle.getHeight())) {
+                // Calculate the relative position of the ball on the paddle
+                double relativeIntersectX = (balls.getX(i) + balls.getWidth(i) / 2) - (paddle.getX() + paddle.getWidth() / 2);
+                double normalizedRelativeIntersection = relativeIntersectX / (paddle.getWidth() / 2);
                 
-                // Damage the brick
-                brick.hit();
+                // Calculate the bounce angle (-60 to 60 degrees)
+                double bounceAngle = normalizedRelativeIntersection * Math.PI / 3;
                 
-                // If brick is destroyed, maybe drop a power-up
-                if (!brick.isVisible()) {
-                    if (random.nextDouble() < 0.3) { // 30% chance for power-up
-                        PowerUpType[] types = PowerUpType.values();
-                        PowerUpType randomType = types[random.nextInt(types.length)];
+                // Set the new velocity
+                double speed = Math.sqrt(balls.getDx(i) * balls.getDx(i) + balls.getDy(i) * balls.getDy(i));
+                balls.setVelocity(i, speed * Math.sin(bounceAngle), -speed * Math.cos(bounceAngle));
+            }
+            
+            // Check ball-brick collisions
+            for (Brick brick : bricks) {
+                if (brick.isVisible() && balls.intersects(i, brick.getX(), brick.getY(), brick.getWidth(), brick.getHeight())) {
+                    // Determine collision side and bounce accordingly
+                    int ballX = (int) balls.getX(i);
+                    int ballY = (int) balls.getY(i);
+                    int overlapWidth = Math.min(ballX + balls.getWidth(i), brick.getX() + brick.getWidth())
+                        - Math.max(ballX, brick.getX());
+                    int overlapHeight = Math.min(ballY + balls.getHeight(i), brick.getY() + brick.getHeight())
+                        - Math.max(ballY, brick.getY());
+                    
+                    if (overlapWidth <= overlapHeight) {
+                        // Horizontal collision (left or right)
+                        balls.setVelocity(i, -balls.getDx(i), balls.getDy(i));
+                    } else {
+                        // Vertical collision (top or bottom)
+                        balls.setVelocity(i, balls.getDx(i), -balls.getDy(i));
+                    }
+                    
+                    // Damage the brick
+                    brick.hit();
+                    
+                    // If brick is destroyed, maybe drop a power-up
+                    if (!brick.isVisible()) {
+                        if (random.nextDouble() < 0.3) { // 30% chance for power-up
+                            PowerUpType[] types = PowerUpType.values();
+                            PowerUpType randomType = types[random.nextInt(types.length)];
+                            
+                            spawnPowerUp(
+                                brick.getX() + brick.getWidth() / 2 - 15,
+                                brick.getY() + brick.getHeight(),
+                                randomType);
+                        }
                         
-                        powerUps.add(new PowerUp(
-                            brick.getX() + brick.getWidth() / 2 - 15,
-                            brick.getY() + brick.getHeight(),
-                            randomType));
+                        score += 10 * brick.getInitialStrength();
+                        bricksToRemove.add(brick);
                     }
                     
-                    score += 10 * brick.getInitialStrength();
-                    bricksToRemove.add(brick);
+                    // Only process one brick hit per ball per update
+                    break;
                 }
-                
-                // Only process one brick hit per update
-                break;
             }
         }
         
         bricks.removeAll(bricksToRemove);
         
-        // Check ball out of bounds
-        if (ball.getY() > HEIGHT) {
+        // Balls that fell out of bounds were removed by the bounds system
+        if (balls.size() == 0) {
             lives--;
             if (lives <= 0) {
                 gameOver = true;
@@ -339,6 +514,7 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
     
     @Override
     public void keyPressed(KeyEvent e) {
+        input.press(e);
         int key = e.getKeyCode();
         
         if (key == KeyEvent.VK_SPACE) {
@@ -359,25 +535,12 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
                 }
             }
         }
-        
-        if (inGame && !gameOver) {
-            if (key == KeyEvent.VK_LEFT) {
-                paddle.setDx(-8);
-            }
-            
-            if (key == KeyEvent.VK_RIGHT) {
-                paddle.setDx(8);
-            }
-        }
     }
     
     @Override
     public void keyReleased(KeyEvent e) {
-        int key = e.getKeyCode();
-        
-        if (key == KeyEvent.VK_LEFT || key == KeyEvent.VK_RIGHT) {
-            paddle.setDx(0);
-        }
+        // Paddle movement is polled from the key-state table each tick
+        input.release(e);
     }
     
     @Override
@@ -409,115 +572,34 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
             frame.pack();
             frame.setLocationRelativeTo(null);
             frame.setVisible(true);
+            
+            // -Dbrickbreaker.latency=robot|direct enables the latency harness
+            String latencyMode = System.getProperty("brickbreaker.latency");
+            if (latencyMode != null) {
+                game.startLatencyProbe("robot".equals(latencyMode));
+            }
         });
     }
     
-    // Game objects
-    
-    // Ball class
-    class Ball {
-        private double x, y;
-        private double dx, dy;
-        private int size;
-        private Color color;
-        private double baseSpeed;
-        
-        public Ball(int x, int y) {
-            this.x = x;
-            this.y = y;
-            this.size = 15;
-            this.color = Color.WHITE;
-            this.baseSpeed = 5.0;
-            
-            // Initialize with an upward trajectory at an angle
-            double angle = Math.toRadians(-60 + random.nextInt(120)); // -60 to 60 degrees
-            this.dx = baseSpeed * Math.sin(angle);
-            this.dy = -baseSpeed * Math.cos(angle);
-        }
-        
-        public void move() {
-            x += dx;
-            y += dy;
-            
-            // Bounce off walls
-            if (x <= 0 || x >= WIDTH - size) {
-                dx = -dx;
-            }
-            
-            // Bounce off ceiling
-            if (y <= 0) {
-                dy = -dy;
-            }
-        }
-        
-        public void draw(Graphics2D g2d) {
-            g2d.setColor(color);
-            g2d.fillOval((int)x, (int)y, size, size);
-        }
-        
-        public Rectangle getBounds() {
-            return new Rectangle((int)x, (int)y, size, size);
-        }
-        
-        public void speedUp() {
-            double currentSpeed = Math.sqrt(dx * dx + dy * dy);
-            double factor = 1.3; // 30% faster
-            dx = dx / currentSpeed * (currentSpeed * factor);
-            dy = dy / currentSpeed * (currentSpeed * factor);
-        }
-        
-        public void slowDown() {
-            double currentSpeed = Math.sqrt(dx * dx + dy * dy);
-            double factor = 0.7; // 30% slower
-            dx = dx / currentSpeed * (currentSpeed * factor);
-            dy = dy / currentSpeed * (currentSpeed * factor);
-        }
-        
-        public double getX() {
-            return x;
-        }
-        
-        public double getY() {
-            return y;
-        }
-        
-        public int getSize() {
-            return size;
-        }
-        
-        public double getDx() {
-            return dx;
-        }
-        
-        public double getDy() {
-            return dy;
-        }
-        
-        public void setDx(double dx) {
-            this.dx = dx;
-        }
-        
-        public void setDy(double dy) {
-            this.dy = dy;
-        }
+    public void startLatencyProbe(boolean useRobot) {
+        latencyProbe = new LatencyProbe(useRobot);
+        latencyProbe.start();
     }
     
+    // Game objects
+    
     // Paddle class
     class Paddle {
         private int x, y;
         private int dx;
         private int width, height;
-        private Color color;
-        private int baseWidth;
         
         public Paddle(int x, int y) {
             this.x = x;
             this.y = y;
             this.dx = 0;
-            this.baseWidth = 100;
-            this.width = baseWidth;
-            this.height = 20;
-            this.color = new Color(50, 150, 250);
+            this.width = PADDLE_WIDTH;
+            this.height = PADDLE_HEIGHT;
         }
         
         public void move() {
@@ -533,21 +615,16 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
             }
         }
         
-        public void draw(Graphics2D g2d) {
-            g2d.setColor(color);
-            g2d.fillRoundRect(x, y, width, height, 15, 15);
-        }
-        
-        public Rectangle getBounds() {
-            return new Rectangle(x, y, width, height);
+        public void draw(Graphics2D g2d, SpriteAtlas atlas) {
+            atlas.drawPaddle(g2d, width, x, y);
         }
         
         public void expand() {
-            width = (int)(baseWidth * 1.5);
+            width = PADDLE_EXPANDED_WIDTH;
         }
         
         public void shrink() {
-            width = (int)(baseWidth * 0.75);
+            width = PADDLE_SHRUNK_WIDTH;
         }
         
         public int getX() {
@@ -562,6 +639,10 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
             return width;
         }
         
+        public int getHeight() {
+            return height;
+        }
+        
         public void setDx(int dx) {
             this.dx = dx;
         }
@@ -587,22 +668,10 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
             this.visible = true;
         }
         
-        public void draw(Graphics2D g2d) {
+        public void draw(Graphics2D g2d, SpriteAtlas atlas) {
             if (!visible) return;
             
-            // Determine color based on remaining strength
-            float saturation = 0.7f - (0.2f * (initialStrength - strength));
-            Color currentColor = new Color(
-                (int)(color.getRed() * saturation),
-                (int)(color.getGreen() * saturation),
-                (int)(color.getBlue() * saturation)
-            );
-            
-            g2d.setColor(currentColor);
-            g2d.fillRoundRect(x, y, width, height, 5, 5);
-            
-            g2d.setColor(Color.BLACK);
-            g2d.drawRoundRect(x, y, width, height, 5, 5);
+            atlas.drawBrick(g2d, color, initialStrength - strength, x, y);
         }
         
         public void hit() {
@@ -612,10 +681,6 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
             }
         }
         
-        public Rectangle getBounds() {
-            return new Rectangle(x, y, width, height);
-        }
-        
         public boolean isVisible() {
             return visible;
         }
@@ -641,98 +706,776 @@ public class BrickBreakerGame extends JPanel implements ActionListener, KeyListe
         }
     }
     
-    // PowerUp class
+    // PowerUp types
     enum PowerUpType {
-        EXPAND_PADDLE,
-        SHRINK_PADDLE,
-        EXTRA_LIFE,
-        FAST_BALL,
-        SLOW_BALL
+        EXPAND_PADDLE(Color.GREEN, "+", 4),
+        SHRINK_PADDLE(Color.RED, "-", 4),
+        EXTRA_LIFE(Color.PINK, "♥", 5),
+        FAST_BALL(Color.YELLOW, "F", 4),
+        SLOW_BALL(Color.CYAN, "S", 4);
+        
+        private final Color color;
+        private final String symbol;
+        private final int symbolOffset;
+        
+        PowerUpType(Color color, String symbol, int symbolOffset) {
+            this.color = color;
+            this.symbol = symbol;
+            this.symbolOffset = symbolOffset;
+        }
+        
+        public Color getColor() {
+            return color;
+        }
+        
+        public String getSymbol() {
+            return symbol;
+        }
+        
+        public int getSymbolOffset() {
+            return symbolOffset;
+        }
     }
     
-    class PowerUp {
-        private int x, y;
-        private int width, height;
-        private int speed;
-        private PowerUpType type;
-        private Color color;
+    // What an entity does when it reaches a screen edge
+    enum EdgeRule {
+        IGNORE, // carry on past the edge
+        BOUNCE, // reverse velocity on that axis
+        CULL    // remove from the table once fully past the edge
+    }
+    
+    // Entity table: one row per entity of an archetype, one primitive
+    // array per component, so systems walk contiguous memory
+    class EntityTable {
+        private final EdgeRule sides, top, bottom;
+        private int count;
+        private double[] x, y;
+        private double[] dx, dy;
+        private int[] width, height;
+        private int[] type;
+        
+        public EntityTable(EdgeRule sides, EdgeRule top, EdgeRule bottom, int capacity) {
+            this.sides = sides;
+            this.top = top;
+            this.bottom = bottom;
+            this.count = 0;
+            this.x = new double[capacity];
+            this.y = new double[capacity];
+            this.dx = new double[capacity];
+            this.dy = new double[capacity];
+            this.width = new int[capacity];
+            this.height = new int[capacity];
+            this.type = new int[capacity];
+        }
         
-        public PowerUp(int x, int y, PowerUpType type) {
-            this.x = x;
-            this.y = y;
-            this.width = 30;
-            this.height = 15;
-            this.speed = 3;
-            this.type = type;
-            
-            // Set color based on type
-            switch (type) {
-                case EXPAND_PADDLE:
-                    this.color = Color.GREEN;
-                    break;
-                case SHRINK_PADDLE:
-                    this.color = Color.RED;
-                    break;
-                case EXTRA_LIFE:
-                    this.color = Color.PINK;
-                    break;
-                case FAST_BALL:
-                    this.color = Color.YELLOW;
-                    break;
-                case SLOW_BALL:
-                    this.color = Color.CYAN;
-                    break;
-                default:
-                    this.color = Color.WHITE;
+        public int add(double x, double y, double dx, double dy, int width, int height, int type) {
+            if (count == this.x.length) {
+                grow();
             }
+            
+            int i = count++;
+            this.x[i] = x;
+            this.y[i] = y;
+            this.dx[i] = dx;
+            this.dy[i] = dy;
+            this.width[i] = width;
+            this.height[i] = height;
+            this.type[i] = type;
+            return i;
+        }
+        
+        // Swap-remove: the last entity takes the freed slot
+        public void remove(int i) {
+            int last = --count;
+            x[i] = x[last];
+            y[i] = y[last];
+            dx[i] = dx[last];
+            dy[i] = dy[last];
+            width[i] = width[last];
+            height[i] = height[last];
+            type[i] = type[last];
+        }
+        
+        public void clear() {
+            count = 0;
+        }
+        
+        private void grow() {
+            int capacity = x.length * 2;
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            dx = Arrays.copyOf(dx, capacity);
+            dy = Arrays.copyOf(dy, capacity);
+            width = Arrays.copyOf(width, capacity);
+            height = Arrays.copyOf(height, capacity);
+            type = Arrays.copyOf(type, capacity);
         }
         
+        // Movement system
         public void move() {
-            y += speed;
+            for (int i = 0; i < count; i++) {
+                x[i] += dx[i];
+                y[i] += dy[i];
+            }
+        }
+        
+        // Bounds system: apply the archetype's rule at the side walls,
+        // the ceiling and the floor
+        public void confine() {
+            for (int i = count - 1; i >= 0; i--) {
+                // Cull once fully past the edge
+                if ((sides == EdgeRule.CULL && (x[i] + width[i] < 0 || x[i] > WIDTH))
+                        || (top == EdgeRule.CULL && y[i] + height[i] < 0)
+                        || (bottom == EdgeRule.CULL && y[i] > HEIGHT)) {
+                    remove(i);
+                    continue;
+                }
+                
+                // Bounce on touching the edge
+                if (sides == EdgeRule.BOUNCE && (x[i] <= 0 || x[i] >= WIDTH - width[i])) {
+                    dx[i] = -dx[i];
+                }
+                
+                if ((top == EdgeRule.BOUNCE && y[i] <= 0)
+                        || (bottom == EdgeRule.BOUNCE && y[i] >= HEIGHT - height[i])) {
+                    dy[i] = -dy[i];
+                }
+            }
         }
         
-        public void draw(Graphics2D g2d) {
-            g2d.setColor(color);
-            g2d.fillRoundRect(x, y, width, height, 10, 10);
+        public boolean intersects(int i, int rx, int ry, int rw, int rh) {
+            // Same test as Rectangle.intersects on the truncated position
+            int ex = (int) x[i];
+            int ey = (int) y[i];
+            return ex < rx + rw && rx < ex + width[i] && ey < ry + rh && ry < ey + height[i];
+        }
+        
+        public void scaleVelocity(double factor) {
+            for (int i = 0; i < count; i++) {
+                dx[i] *= factor;
+                dy[i] *= factor;
+            }
+        }
+        
+        public int size() {
+            return count;
+        }
+        
+        public double getX(int i) {
+            return x[i];
+        }
+        
+        public double getY(int i) {
+            return y[i];
+        }
+        
+        public double getDx(int i) {
+            return dx[i];
+        }
+        
+        public double getDy(int i) {
+            return dy[i];
+        }
+        
+        public int getWidth(int i) {
+            return width[i];
+        }
+        
+        public int getHeight(int i) {
+            return height[i];
+        }
+        
+        public int getType(int i) {
+            return type[i];
+        }
+        
+        public void setVelocity(int i, double dx, double dy) {
+            this.dx[i] = dx;
+            this.dy[i] = dy;
+        }
+    }
+    
+    // Sprite atlas: every sprite for one quality tier, rasterized once into
+    // a single compatible image so drawing is just drawImage blits. The
+    // image's transparency follows the tier, so lower tiers blit cheaper:
+    // alpha blending at HIGH, a bitmask at MEDIUM, a straight copy at LOW
+    class SpriteAtlas {
+        private final RenderQuality quality;
+        private final BufferedImage image;
+        private final ArrayList<Rectangle> regions = new ArrayList<>();
+        private final ArrayList<Consumer<Graphics2D>> painters = new ArrayList<>();
+        private int rowX, rowY, rowHeight;
+        
+        private final Rectangle ball;
+        private final HashMap<Integer, Rectangle> paddles = new HashMap<>();
+        private final Rectangle[] powerUps = new Rectangle[PowerUpType.values().length];
+        private final HashMap<Color, Rectangle[]> bricks = new HashMap<>();
+        private final Rectangle[] digits = new Rectangle[10];
+        private final HashMap<String, Rectangle> labels = new HashMap<>();
+        private final Rectangle qualityLabel;
+        private final int hudAscent;
+        private final int metricAscent;
+        
+        public SpriteAtlas(RenderQuality quality) {
+            this.quality = quality;
+            
+            ball = reserve(BALL_SIZE, BALL_SIZE, g -> {
+                g.setColor(Color.WHITE);
+                if (quality == RenderQuality.LOW) {
+                    g.fillRect(0, 0, BALL_SIZE, BALL_SIZE);
+                } else {
+                    g.fillOval(0, 0, BALL_SIZE, BALL_SIZE);
+                }
+            });
+            
+            for (int width : new int[] { PADDLE_WIDTH, PADDLE_EXPANDED_WIDTH, PADDLE_SHRUNK_WIDTH }) {
+                paddles.put(width, reserve(width, PADDLE_HEIGHT, g -> {
+                    g.setColor(PADDLE_COLOR);
+                    if (quality == RenderQuality.LOW) {
+                        g.fillRect(0, 0, width, PADDLE_HEIGHT);
+                    } else {
+                        g.fillRoundRect(0, 0, width, PADDLE_HEIGHT, 15, 15);
+                    }
+                }));
+            }
             
-            g2d.setColor(Color.BLACK);
-            g2d.drawRoundRect(x, y, width, height, 10, 10);
+            // Outlines extend one pixel past the fill, so capsules and tiles do too
+            for (PowerUpType type : PowerUpType.values()) {
+                powerUps[type.ordinal()] = reserve(POWER_UP_WIDTH + 1, POWER_UP_HEIGHT + 1,
+                    g -> paintPowerUp(g, type));
+            }
+            
+            for (Color color : BRICK_COLORS) {
+                Rectangle[] tiles = new Rectangle[BRICK_MAX_STRENGTH];
+                for (int damage = 0; damage < tiles.length; damage++) {
+                    int tileDamage = damage;
+                    tiles[damage] = reserve(BRICK_WIDTH + 1, BRICK_HEIGHT + 1,
+                        g -> paintBrick(g, color, tileDamage));
+                }
+                bricks.put(color, tiles);
+            }
+            
+            FontMetrics hud = getFontMetrics(HUD_FONT);
+            hudAscent = hud.getAscent();
+            for (int digit = 0; digit < digits.length; digit++) {
+                digits[digit] = reserveText(String.valueOf(digit), hud, HUD_FONT, Color.WHITE);
+            }
+            for (String label : new String[] { "Score: ", "Lives: ", "Level: " }) {
+                labels.put(label, reserveText(label, hud, HUD_FONT, Color.WHITE));
+            }
+            
+            FontMetrics metric = getFontMetrics(METRIC_FONT);
+            metricAscent = metric.getAscent();
+            qualityLabel = reserveText("Quality: " + quality, metric, METRIC_FONT, Color.GRAY);
+            
+            image = createSpriteImage(ATLAS_WIDTH, rowY + rowHeight, quality.getTransparency());
+            Graphics2D g = image.createGraphics();
+            if (quality.getTransparency() == Transparency.OPAQUE) {
+                // Opaque sprites carry the playfield colour around their shapes
+                g.setColor(getBackground());
+                g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            }
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                quality == RenderQuality.HIGH ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+            for (int i = 0; i < regions.size(); i++) {
+                Rectangle r = regions.get(i);
+                Graphics2D sprite = (Graphics2D) g.create(r.x, r.y, r.width, r.height);
+                painters.get(i).accept(sprite);
+                sprite.dispose();
+            }
+            g.dispose();
+        }
+        
+        // Shelf packing: fill rows left to right, start a new row when full
+        private Rectangle reserve(int width, int height, Consumer<Graphics2D> painter) {
+            if (rowX + width > ATLAS_WIDTH) {
+                rowX = 0;
+                rowY += rowHeight;
+                rowHeight = 0;
+            }
+            
+            Rectangle region = new Rectangle(rowX, rowY, width, height);
+            rowX += width;
+            rowHeight = Math.max(rowHeight, height);
+            
+            regions.add(region);
+            painters.add(painter);
+            return region;
+        }
+        
+        private Rectangle reserveText(String text, FontMetrics fm, Font font, Color color) {
+            return reserve(fm.stringWidth(text), fm.getHeight(), g -> {
+                g.setFont(font);
+                g.setColor(color);
+                g.drawString(text, 0, fm.getAscent());
+            });
+        }
+        
+        private void paintPowerUp(Graphics2D g, PowerUpType type) {
+            g.setColor(type.getColor());
+            if (quality == RenderQuality.LOW) {
+                // Colour alone identifies the power-up; skip shapes and glyphs
+                g.fillRect(0, 0, POWER_UP_WIDTH, POWER_UP_HEIGHT);
+                return;
+            }
+            
+            g.fillRoundRect(0, 0, POWER_UP_WIDTH, POWER_UP_HEIGHT, 10, 10);
+            
+            g.setColor(Color.BLACK);
+            if (quality == RenderQuality.HIGH) {
+                g.drawRoundRect(0, 0, POWER_UP_WIDTH, POWER_UP_HEIGHT, 10, 10);
+            }
             
             // Draw symbol based on type
-            g2d.setColor(Color.BLACK);
-            switch (type) {
-                case EXPAND_PADDLE:
-                    g2d.drawString("+", x + width/2 - 4, y + height/2 + 4);
-                    break;
-                case SHRINK_PADDLE:
-                    g2d.drawString("-", x + width/2 - 4, y + height/2 + 4);
-                    break;
-                case EXTRA_LIFE:
-                    g2d.drawString("♥", x + width/2 - 5, y + height/2 + 5);
-                    break;
-                case FAST_BALL:
-                    g2d.drawString("F", x + width/2 - 4, y + height/2 + 4);
-                    break;
-                case SLOW_BALL:
-                    g2d.drawString("S", x + width/2 - 4, y + height/2 + 4);
-                    break;
+            int offset = type.getSymbolOffset();
+            g.setFont(getFont());
+            g.drawString(type.getSymbol(), POWER_UP_WIDTH/2 - offset, POWER_UP_HEIGHT/2 + offset);
+        }
+        
+        private void paintBrick(Graphics2D g, Color color, int damage) {
+            // Determine color based on remaining strength
+            float saturation = 0.7f - (0.2f * damage);
+            g.setColor(new Color(
+                (int)(color.getRed() * saturation),
+                (int)(color.getGreen() * saturation),
+                (int)(color.getBlue() * saturation)
+            ));
+            
+            if (quality == RenderQuality.LOW) {
+                // Plain tiles; leave a one-pixel gap in place of the outline
+                g.fillRect(0, 0, BRICK_WIDTH - 1, BRICK_HEIGHT - 1);
+                return;
+            }
+            
+            g.fillRoundRect(0, 0, BRICK_WIDTH, BRICK_HEIGHT, 5, 5);
+            
+            if (quality == RenderQuality.HIGH) {
+                g.setColor(Color.BLACK);
+                g.drawRoundRect(0, 0, BRICK_WIDTH, BRICK_HEIGHT, 5, 5);
             }
         }
         
-        public Rectangle getBounds() {
-            return new Rectangle(x, y, width, height);
+        private void blit(Graphics2D g2d, Rectangle r, int x, int y) {
+            g2d.drawImage(image, x, y, x + r.width, y + r.height, r.x, r.y, r.x + r.width, r.y + r.height, null);
         }
         
-        public int getX() {
-            return x;
+        public void drawBall(Graphics2D g2d, int x, int y) {
+            blit(g2d, ball, x, y);
         }
         
-        public int getY() {
-            return y;
+        public void drawPaddle(Graphics2D g2d, int width, int x, int y) {
+            blit(g2d, paddles.get(width), x, y);
+        }
+        
+        public void drawPowerUp(Graphics2D g2d, PowerUpType type, int x, int y) {
+            blit(g2d, powerUps[type.ordinal()], x, y);
+        }
+        
+        public void drawBrick(Graphics2D g2d, Color color, int damage, int x, int y) {
+            blit(g2d, bricks.get(color)[damage], x, y);
+        }
+        
+        public void drawQualityLabel(Graphics2D g2d, int x, int baseline) {
+            blit(g2d, qualityLabel, x, baseline - metricAscent);
+        }
+        
+        public int getTransparency() {
+            return quality.getTransparency();
+        }
+        
+        public Rectangle getDigit(int digit) {
+            return digits[digit];
+        }
+        
+        public Rectangle getLabel(String label) {
+            return labels.get(label);
+        }
+        
+        public int getHudAscent() {
+            return hudAscent;
+        }
+    }
+    
+    // HUD counter: label plus value, composed from atlas glyphs and only
+    // re-rasterized when the value (or the atlas) changes
+    class HudCounter {
+        private final String label;
+        private int value;
+        private SpriteAtlas source;
+        private BufferedImage image;
+        
+        public HudCounter(String label) {
+            this.label = label;
+        }
+        
+        public void draw(Graphics2D g2d, SpriteAtlas atlas, int value, int x, int baseline) {
+            if (image == null || value != this.value || atlas != source) {
+                rebuild(atlas, value);
+            }
+            g2d.drawImage(image, x, baseline - atlas.getHudAscent(), null);
+        }
+        
+        private void rebuild(SpriteAtlas atlas, int value) {
+            String digits = String.valueOf(Math.max(0, value));
+            Rectangle labelGlyph = atlas.getLabel(label);
+            
+            int width = labelGlyph.width;
+            for (int i = 0; i < digits.length(); i++) {
+                width += atlas.getDigit(digits.charAt(i) - '0').width;
+            }
+            
+            image = createSpriteImage(width, labelGlyph.height, atlas.getTransparency());
+            Graphics2D g = image.createGraphics();
+            atlas.blit(g, labelGlyph, 0, 0);
+            int x = labelGlyph.width;
+            for (int i = 0; i < digits.length(); i++) {
+                Rectangle glyph = atlas.getDigit(digits.charAt(i) - '0');
+                atlas.blit(g, glyph, x, 0);
+                x += glyph.width;
+            }
+            g.dispose();
+            
+            this.value = value;
+            this.source = atlas;
+        }
+    }
+    
+    // Keyboard state table
+    class InputState {
+        private final boolean[] down = new boolean[256];
+        private final long[] pressedAt = new long[256];
+        private final long[] eventWhen = new long[256];
+        private final long[] handledWhen = new long[256];
+        
+        public void press(KeyEvent e) {
+            int key = e.getKeyCode();
+            if (key < 0 || key >= down.length) return;
+            
+            // Ignore auto-repeat so the timestamps mark the first press
+            if (!down[key]) {
+                down[key] = true;
+                pressedAt[key] = System.nanoTime();
+                eventWhen[key] = e.getWhen();
+                handledWhen[key] = System.currentTimeMillis();
+            }
+        }
+        
+        public void release(KeyEvent e) {
+            int key = e.getKeyCode();
+            if (key < 0 || key >= down.length) return;
+            
+            down[key] = false;
+        }
+        
+        public void clear() {
+            Arrays.fill(down, false);
+        }
+        
+        public boolean isDown(int key) {
+            return down[key];
+        }
+        
+        // System.nanoTime() when the press reached the game
+        public long getPressedAt(int key) {
+            return pressedAt[key];
+        }
+        
+        // Milliseconds from the press's KeyEvent.getWhen() stamp to the game
+        // handling it, i.e. the OS and event-queue delay for real key events
+        public long getDeliveryMillis(int key) {
+            // Both are wall-clock times, so clamp if the clock stepped back
+            return Math.max(0, handledWhen[key] - eventWhen[key]);
+        }
+    }
+    
+    // Input-to-frame latency harness: injects a synthetic arrow key press,
+    // then times how long until a painted frame shows the paddle moved
+    class LatencyProbe {
+        private Robot robot;
+        private Timer probeTimer;
+        private LatencyHistogram eventLatency;
+        private LatencyHistogram deliveryLatency;
+        private LatencyHistogram frameLatency;
+        private int pendingKey;
+        private long injectedAt;
+        private int startX;
+        private Paddle probedPaddle;
+        private int timeouts;
+        private int discarded;
+        
+        public LatencyProbe(boolean useRobot) {
+            if (useRobot) {
+                try {
+                    robot = new Robot();
+                } catch (AWTException | SecurityException e) {
+                    System.err.println("Robot unavailable, injecting key events directly: " + e.getMessage());
+                }
+            }
+            
+            eventLatency = new LatencyHistogram("key press to event handled");
+            deliveryLatency = new LatencyHistogram("event timestamp to event handled");
+            frameLatency = new LatencyHistogram("key press to paddle moved on screen");
+            probeTimer = new Timer(PROBE_INTERVAL, e -> probe());
+        }
+        
+        public void start() {
+            probeTimer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::report));
+        }
+        
+        private void probe() {
+            if (pendingKey != 0) {
+                if (System.nanoTime() - injectedAt > PROBE_TIMEOUT_NANOS) {
+                    timeouts++;
+                    finish();
+                }
+                return;
+            }
+            
+            if (!inGame || gameOver) return;
+            
+            // A held arrow already moves the paddle and would mask the probe
+            if (input.isDown(KeyEvent.VK_LEFT) || input.isDown(KeyEvent.VK_RIGHT)) return;
+            
+            // Move towards the centre so the wall never blocks the paddle
+            pendingKey = paddle.getX() < WIDTH / 2 ? KeyEvent.VK_RIGHT : KeyEvent.VK_LEFT;
+            startX = paddle.getX();
+            probedPaddle = paddle;
+            injectedAt = System.nanoTime();
+            inject(KeyEvent.KEY_PRESSED, pendingKey);
+        }
+        
+        public void framePainted() {
+            if (pendingKey == 0) return;
+            
+            // A new paddle after a lost ball moves without any input
+            if (paddle != probedPaddle) {
+                finish();
+                return;
+            }
+            
+            if (paddle.getX() != startX) {
+                long now = System.nanoTime();
+                
+                // Only count movement caused by the injected press: it must
+                // have been handled after injection and push the paddle the
+                // injected way, otherwise a player's own input moved it
+                int direction = pendingKey == KeyEvent.VK_RIGHT ? 1 : -1;
+                if (input.getPressedAt(pendingKey) < injectedAt
+                        || Integer.signum(paddle.getX() - startX) != direction) {
+                    discarded++;
+                    finish();
+                    return;
+                }
+                
+                eventLatency.record(input.getPressedAt(pendingKey) - injectedAt);
+                deliveryLatency.record(input.getDeliveryMillis(pendingKey) * 1_000_000L);
+                frameLatency.record(now - injectedAt);
+                finish();
+                
+                if (frameLatency.getCount() % PROBE_REPORT_EVERY == 0) {
+                    report();
+                }
+            }
+        }
+        
+        private void finish() {
+            int key = pendingKey;
+            pendingKey = 0;
+            
+            // Release later so painting is not interrupted by event dispatch
+            SwingUtilities.invokeLater(() -> inject(KeyEvent.KEY_RELEASED, key));
+        }
+        
+        private void inject(int id, int key) {
+            if (robot != null) {
+                if (id == KeyEvent.KEY_PRESSED) {
+                    robot.keyPress(key);
+                } else {
+                    robot.keyRelease(key);
+                }
+                return;
+            }
+            
+            // Queue delivery on the EDT so queueing delay is still measured,
+            // but hand the event straight to the listener without needing focus
+            KeyEvent event = new KeyEvent(BrickBreakerGame.this, id, System.currentTimeMillis(), 0,
+                key, KeyEvent.CHAR_UNDEFINED);
+            SwingUtilities.invokeLater(() -> {
+                if (id == KeyEvent.KEY_PRESSED) {
+                    keyPressed(event);
+                } else {
+                    keyReleased(event);
+                }
+            });
+        }
+        
+        // Runs on the EDT, and once more from the shutdown hook without any
+        // locking, so the exit report is best-effort and may be a frame stale
+        public void report() {
+            System.out.println("Input latency (" + (robot != null ? "robot" : "direct")
+                + " injection, " + timeouts + " timed out, " + discarded + " discarded)");
+            System.out.print(eventLatency.report());
+            System.out.print(deliveryLatency.report());
+            System.out.print(frameLatency.report());
+        }
+    }
+    
+    // Latency histogram with one-millisecond buckets
+    class LatencyHistogram {
+        private final String name;
+        private final int[] buckets = new int[HISTOGRAM_BUCKETS + 1];
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+        
+        public LatencyHistogram(String name) {
+            this.name = name;
+        }
+        
+        public void record(long nanos) {
+            int bucket = (int) Math.min(nanos / 1_000_000L, HISTOGRAM_BUCKETS);
+            buckets[bucket]++;
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+        
+        // Upper bound, in milliseconds, of the bucket holding the given percentile
+        public int percentile(double p) {
+            int target = (int) Math.ceil(count * p);
+            int seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return i + 1;
+                }
+            }
+            return buckets.length;
+        }
+        
+        public int getCount() {
+            return count;
+        }
+        
+        public String report() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("  %s: n=%d", name, count));
+            if (count == 0) {
+                return sb.append('\n').toString();
+            }
+            
+            sb.append(String.format(" mean=%.2f ms p50<%d ms p95<%d ms p99<%d ms max=%.2f ms%n",
+                totalNanos / 1e6 / count, percentile(0.50), percentile(0.95), percentile(0.99), maxNanos / 1e6));
+            
+            int peak = Arrays.stream(buckets).max().getAsInt();
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] == 0) continue;
+                
+                String range = i < HISTOGRAM_BUCKETS ? String.format("%2d-%2d ms", i, i + 1) : String.format(">=%d ms", i);
+                int bar = Math.max(1, buckets[i] * 40 / peak);
+                sb.append(String.format("    %-8s %5d %s%n", range, buckets[i], "#".repeat(bar)));
+            }
+            return sb.toString();
+        }
+    }
+    
+    // Render quality tiers, from best looking to cheapest
+    enum RenderQuality {
+        HIGH(Transparency.TRANSLUCENT), // antialiased, rounded shapes with outlines, power-up symbols
+        MEDIUM(Transparency.BITMASK),   // no antialiasing or outlines
+        LOW(Transparency.OPAQUE);       // plain rectangles, no power-up symbols
+        
+        private final int transparency;
+        
+        RenderQuality(int transparency) {
+            this.transparency = transparency;
+        }
+        
+        // Transparency of the tier's sprites
+        public int getTransparency() {
+            return transparency;
+        }
+    }
+    
+    // Frame-budget governor
+    class FrameGovernor {
+        private RenderQuality quality;
+        private double averageNanos;
+        private int framesOverBudget;
+        private int framesWithHeadroom;
+        private int framesAtTier;
+        
+        // stepUpCost[t] estimates how much dearer tier t - 1 is than tier t,
+        // measured as the average just before stepping down over the
+        // average once settled at the cheaper tier
+        private double[] stepUpCost;
+        private double costBeforeStep;
+        private boolean measuringStep;
+        
+        public FrameGovernor() {
+            this.quality = RenderQuality.HIGH;
+            this.averageNanos = 0;
+            this.framesOverBudget = 0;
+            this.framesWithHeadroom = 0;
+            this.framesAtTier = 0;
+            this.stepUpCost = new double[RenderQuality.values().length];
+            Arrays.fill(stepUpCost, GOVERNOR_DEFAULT_STEP_COST);
+            this.measuringStep = false;
+        }
+        
+        public void recordFrame(long frameNanos) {
+            averageNanos += (frameNanos - averageNanos) * GOVERNOR_SMOOTHING;
+            framesAtTier++;
+            
+            RenderQuality[] tiers = RenderQuality.values();
+            int tier = quality.ordinal();
+            
+            // Once the average has settled after a step down, learn what
+            // that step saved
+            if (measuringStep && framesAtTier >= GOVERNOR_DOWNGRADE_FRAMES) {
+                stepUpCost[tier] = Math.max(1.0, costBeforeStep / averageNanos);
+                measuringStep = false;
+            }
+            
+            // Count consecutive frames on each side; any frame that breaks
+            // the streak starts it over
+            if (averageNanos > FRAME_BUDGET_NANOS) {
+                framesOverBudget++;
+            } else {
+                framesOverBudget = 0;
+            }
+            
+            // Headroom means the next tier up is expected to fit the budget
+            // with margin to spare, not merely that this tier is cheap
+            double nextTierNanos = averageNanos * stepUpCost[tier];
+            if (!measuringStep && nextTierNanos < FRAME_BUDGET_NANOS * GOVERNOR_UPGRADE_MARGIN) {
+                framesWithHeadroom++;
+            } else {
+                framesWithHeadroom = 0;
+            }
+            
+            // Step down after a short run over budget, step up only after a
+            // long run with plenty of headroom so the tiers do not oscillate
+            if (framesOverBudget >= GOVERNOR_DOWNGRADE_FRAMES && tier < tiers.length - 1) {
+                costBeforeStep = averageNanos;
+                changeTier(tiers[tier + 1]);
+                measuringStep = true;
+            } else if (framesWithHeadroom >= GOVERNOR_UPGRADE_FRAMES && tier > 0) {
+                changeTier(tiers[tier - 1]);
+                measuringStep = false;
+            }
+        }
+        
+        private void changeTier(RenderQuality next) {
+            quality = next;
+            framesOverBudget = 0;
+            framesWithHeadroom = 0;
+            framesAtTier = 0;
         }
         
-        public PowerUpType getType() {
-            return type;
+        public RenderQuality getQuality() {
+            return quality;
         }
     }
 }